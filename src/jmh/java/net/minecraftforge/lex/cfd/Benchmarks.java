@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/*
+ * What the benchmarks need from the game, without FML around to set it up.
+ */
+final class Benchmarks {
+    private Benchmarks() {}
+
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /*
+     * Loads the real server config spec with its default values, the way FML would for a fresh world.
+     */
+    static void config() {
+        var data = CommentedConfig.inMemory();
+        Config.serverSpec.correct(data);
+        Config.serverSpec.acceptConfig(data);
+        Config.refresh();
+    }
+}
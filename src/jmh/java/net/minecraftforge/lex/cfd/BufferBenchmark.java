@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.items.IItemHandler;
+
+/*
+ * What a generator does every time it's updated or a hopper polls it, on real generators with the default config but
+ * no level around them. settle brings a whole level's worth of buffers forward by one tick, the way the scheduler does,
+ * and empties them like a push would. The extracts are a hopper pulling one item at a time through the real Inventory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BufferBenchmark {
+    @Param({"1", "5"})
+    public int tier;
+
+    @Param({"10000"})
+    public int generators;
+
+    private CobbleGenTile[] tiles;
+    private IItemHandler inventory;
+    private long now = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Benchmarks.bootstrap();
+        Benchmarks.config();
+
+        // Nothing looks the type up, it only has to accept the state we give it
+        var type = new BlockEntityType<CobbleGenTile>((pos, state) -> null, Set.of(Blocks.STONE));
+        var state = Blocks.STONE.defaultBlockState();
+        tiles = new CobbleGenTile[generators];
+        for (int x = 0; x < generators; x++) {
+            var tile = tiles[x] = new CobbleGenTile(tier, type, new BlockPos(x, 0, 0), state);
+            tile.timer = 1 + x % tile.timer; // Spread out, like generators placed at different times
+            tile.lastTick = now;
+        }
+        inventory = tiles[0].getCapability(ForgeCapabilities.ITEM_HANDLER, null).orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public long settle() {
+        now++;
+        long ret = 0;
+        for (var tile : tiles) {
+            tile.settle(now);
+            ret += tile.count;
+            tile.count = 0;
+        }
+        return ret;
+    }
+
+    /*
+     * Settling a generator that was unloaded for a long time is one step no matter how long.
+     */
+    @Benchmark
+    public long settleOffline() {
+        now += 24000;
+        long ret = 0;
+        for (var tile : tiles) {
+            tile.settle(now);
+            ret += tile.count;
+            tile.count = 0;
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public ItemStack extractSimulated() {
+        tiles[0].count = 1024;
+        return inventory.extractItem(0, 1, true);
+    }
+
+    @Benchmark
+    public ItemStack extract() {
+        tiles[0].count = 1024;
+        return inventory.extractItem(0, 1, false);
+    }
+}
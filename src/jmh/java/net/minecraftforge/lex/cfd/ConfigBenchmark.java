@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraftforge.lex.cfd.Config.Settings;
+
+/*
+ * What a config change costs, Config.refresh reading the real spec, loaded with its defaults, into a new snapshot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigBenchmark {
+    @Setup(Level.Trial)
+    public void setup() {
+        Benchmarks.config();
+    }
+
+    @Benchmark
+    public Settings[] refresh() {
+        Config.refresh();
+        return Config.getSettings();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.items.ItemStackHandler;
+
+/*
+ * Pushing into the inventory above a generator, compared against the ItemHandlerHelper.insertItemStacked call it replaced.
+ *
+ * The inventory is a real ItemStackHandler, which keeps the stack it's given when it all fits in an empty slot. It's
+ * pushed into until nothing fits, then counted and put back the way it started. If a stack we handed over was
+ * changed afterwards the count is off, and the run fails. 'gradlew jmhCheck' fails if pushing into a full inventory,
+ * or pushing nothing, allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PushBenchmark {
+    public enum Fill { EMPTY, PARTIAL, FULL }
+
+    @Param({"9", "27", "54"})
+    public int slots;
+
+    @Param({"EMPTY", "PARTIAL", "FULL"})
+    public Fill fill;
+
+    private ItemStack[] contents;
+    private ItemStackHandler handler;
+    private PushTarget target;
+    private PushTarget.Stack stack;
+    private long expected;
+    private boolean refill;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Benchmarks.bootstrap();
+
+        contents = new ItemStack[slots];
+        for (int x = 0; x < slots; x++) {
+            boolean full = fill == Fill.FULL || (fill == Fill.PARTIAL && x < slots - 1);
+            contents[x] = full ? new ItemStack(Items.COBBLESTONE, 64) : ItemStack.EMPTY;
+        }
+        handler = new ItemStackHandler(slots);
+        target = new PushTarget();
+        stack = new PushTarget.Stack();
+        fill();
+    }
+
+    /*
+     * Only does anything once the inventory is full, so a full inventory is never copied and never allocates here.
+     */
+    @Setup(Level.Invocation)
+    public void refill() {
+        if (!refill)
+            return;
+
+        long actual = 0;
+        for (int x = 0; x < slots; x++)
+            actual += handler.getStackInSlot(x).getCount();
+        if (actual != expected)
+            throw new IllegalStateException("Inventory holds " + actual + " items, but should have " + expected + ", a stack we gave it was changed afterwards");
+        fill();
+    }
+
+    private void fill() {
+        expected = 0;
+        for (int x = 0; x < slots; x++) {
+            handler.setStackInSlot(x, contents[x].copy());
+            expected += contents[x].getCount();
+        }
+        refill = false;
+    }
+
+    private int pushed(int left) {
+        expected += 16 - left;
+        refill |= left != 0 && fill != Fill.FULL;
+        return left;
+    }
+
+    @Benchmark
+    public int push() {
+        return pushed(target.insert(handler, stack, 16));
+    }
+
+    @Benchmark
+    public int pushNothing() {
+        return target.insert(handler, stack, 0);
+    }
+
+    @Benchmark
+    public int insertItemStacked() {
+        return pushed(ItemHandlerHelper.insertItemStacked(handler, new ItemStack(Items.COBBLESTONE, 16), false).getCount());
+    }
+}
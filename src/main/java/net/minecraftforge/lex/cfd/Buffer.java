@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+/*
+ * The arithmetic behind a generator's buffer, without anything that needs a level.
+ * Every value is non negative, and the buffer sticks at Long.MAX_VALUE instead of wrapping around.
+ */
+final class Buffer {
+    private Buffer() {}
+
+    static long add(long a, long b) {
+        long ret = a + b;
+        return ret < 0 ? Long.MAX_VALUE : ret;
+    }
+
+    static long multiply(long a, long b) {
+        return Math.multiplyHigh(a, b) != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+
+    /*
+     * How many production steps happen in elapsed ticks, when the next one is timer ticks away.
+     */
+    static long steps(int timer, long elapsed, int interval) {
+        long left = timer - elapsed;
+        return left > 0 ? 0 : 1 + (-left / interval);
+    }
+
+    /*
+     * How far away the next production step is after elapsed ticks, when it was timer ticks away.
+     */
+    static int timer(int timer, long elapsed, int interval) {
+        long left = timer - elapsed;
+        return left > 0 ? (int)left : interval - (int)(-left % interval);
+    }
+
+    /*
+     * The count after steps production steps of per items each, filling up to cap. A count that's already over cap
+     * is left alone, a cluster's root holds the whole buffer before the rest of the cluster has joined back up.
+     */
+    static long produce(long count, long steps, long per, long cap) {
+        if (count >= cap)
+            return count;
+        // Anything that would overflow the buffer is clamped anyways, and this keeps the multiply from overflowing
+        long add = steps > cap / per ? cap : steps * per;
+        return Math.min(cap, add(count, add));
+    }
+
+    /*
+     * How much of count an extract asking for amount gets.
+     */
+    static int take(long count, int amount) {
+        return amount <= 0 ? 0 : (int)Math.min(count, amount);
+    }
+}
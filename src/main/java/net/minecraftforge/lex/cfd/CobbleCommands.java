@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.List;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.Level;
+
+class CobbleCommands {
+    private static final int MAX_LISTED = 20;
+
+    static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("cfd")
+            .requires(src -> src.hasPermission(Commands.LEVEL_GAMEMASTERS))
+            .then(Commands.literal("profile")
+                .then(Commands.literal("start").executes(ctx -> {
+                    GeneratorProfiler.start();
+                    ctx.getSource().sendSuccess(() -> Component.literal("Started profiling generators"), true);
+                    return 1;
+                }))
+                .then(Commands.literal("stop").executes(ctx -> {
+                    GeneratorProfiler.stop();
+                    return report(ctx.getSource());
+                }))
+                .then(Commands.literal("report").executes(ctx -> report(ctx.getSource())))
+            )
+            .then(area("count", CobbleCommands::count))
+            .then(area("list", CobbleCommands::list))
+            .then(area("drain", (src, tiles) -> {
+                tiles.forEach(CobbleGenTile::drain);
+                src.sendSuccess(() -> Component.literal("Drained " + tiles.size() + " generators"), true);
+                return tiles.size();
+            }))
+            .then(area("freeze", (src, tiles) -> {
+                tiles.forEach(tile -> tile.setFrozen(true));
+                src.sendSuccess(() -> Component.literal("Froze " + tiles.size() + " generators"), true);
+                return tiles.size();
+            }))
+            .then(area("unfreeze", (src, tiles) -> {
+                tiles.forEach(tile -> tile.setFrozen(false));
+                src.sendSuccess(() -> Component.literal("Unfroze " + tiles.size() + " generators"), true);
+                return tiles.size();
+            }))
+        );
+    }
+
+    private interface AreaCommand {
+        int run(CommandSourceStack src, List<CobbleGenTile> tiles);
+    }
+
+    /*
+     * '<name> <radius> [tier]', run on every loaded generator within radius blocks of the source, of any tier unless one is given.
+     * The radius is capped at the size of the world, anything more is the whole world anyways and would overflow the area.
+     */
+    private static LiteralArgumentBuilder<CommandSourceStack> area(String name, AreaCommand command) {
+        return Commands.literal(name)
+            .then(Commands.argument("radius", IntegerArgumentType.integer(0, Level.MAX_LEVEL_SIZE))
+                .executes(ctx -> area(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"), 0, command))
+                .then(Commands.argument("tier", IntegerArgumentType.integer(1, CobbleForDays.TIER_COUNT))
+                    .executes(ctx -> area(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"), IntegerArgumentType.getInteger(ctx, "tier"), command))
+                )
+            );
+    }
+
+    private static int area(CommandSourceStack src, int radius, int tier, AreaCommand command) {
+        return command.run(src, GeneratorIndex.find(src.getLevel(), BlockPos.containing(src.getPosition()), radius, tier));
+    }
+
+    private static int count(CommandSourceStack src, List<CobbleGenTile> tiles) {
+        var counts = new int[CobbleForDays.TIER_COUNT];
+        int frozen = 0;
+        for (var tile : tiles) {
+            counts[tile.tier - 1]++;
+            if (tile.isFrozen())
+                frozen++;
+        }
+
+        var line = new StringBuilder().append(tiles.size()).append(" generators");
+        var separator = ": ";
+        for (int x = 0; x < counts.length; x++) {
+            if (counts[x] > 0) {
+                line.append(separator).append("Tier ").append(x + 1).append(' ').append(counts[x]);
+                separator = ", ";
+            }
+        }
+        if (frozen > 0)
+            line.append(", ").append(frozen).append(" frozen");
+        src.sendSuccess(() -> Component.literal(line.toString()), false);
+        return tiles.size();
+    }
+
+    private static int list(CommandSourceStack src, List<CobbleGenTile> tiles) {
+        for (int x = 0; x < tiles.size() && x < MAX_LISTED; x++) {
+            var tile = tiles.get(x);
+            var line = String.format("Tier %d at %s: %d/%d%s", tile.tier, tile.getBlockPos().toShortString(),
+                tile.buffered(), tile.root().capacity(), tile.isFrozen() ? ", frozen" : "");
+            src.sendSuccess(() -> Component.literal(line), false);
+        }
+        if (tiles.size() > MAX_LISTED)
+            src.sendSuccess(() -> Component.literal("and " + (tiles.size() - MAX_LISTED) + " more"), false);
+        else if (tiles.isEmpty())
+            src.sendSuccess(() -> Component.literal("No generators found"), false);
+        return tiles.size();
+    }
+
+    private static int report(CommandSourceStack src) {
+        for (var line : GeneratorProfiler.report())
+            src.sendSuccess(() -> Component.literal(line), false);
+        return 1;
+    }
+}
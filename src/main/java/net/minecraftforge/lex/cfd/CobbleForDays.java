@@ -18,7 +18,13 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.RegisterColorHandlersEvent;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
 import net.minecraftforge.event.BuildCreativeModeTabContentsEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.DistExecutor;
 import net.minecraftforge.registries.RegistryObject;
 import net.minecraftforge.fml.common.Mod;
@@ -77,6 +83,8 @@ public class CobbleForDays {
 
     public static final int PLAINS = 4159204;
 
+    public static final Capability<IBulkItemSource> BULK_ITEMS = CapabilityManager.get(new CapabilityToken<>(){});
+
     public CobbleForDays(FMLJavaModLoadingContext context) {
         var modBus = context.getModEventBus();
         ITEMS.register(modBus);
@@ -85,10 +93,14 @@ public class CobbleForDays {
         modBus.addListener(this::setup);
         modBus.addListener(this::setupClient);
         modBus.addListener(this::addCreative);
+        modBus.addListener(this::registerCapabilities);
+        FillSync.register();
 
         DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
             modBus.addListener(this::colorGeneratorBlockWater);
             ItemTintSources.ID_MAPPER.put(ResourceLocation.fromNamespaceAndPath(MODID, "water"), WaterItemTint.CODEC);
+            MinecraftForge.EVENT_BUS.addListener(WaterItemTint::onChunkLoad);
+            MinecraftForge.EVENT_BUS.addListener(WaterItemTint::onLevelUnload);
         });
 
         MinecraftForge.EVENT_BUS.register(this);
@@ -113,6 +125,19 @@ public class CobbleForDays {
 
     private void setup(final FMLCommonSetupEvent event) {}
 
+    private void registerCapabilities(RegisterCapabilitiesEvent event) {
+        event.register(IBulkItemSource.class);
+    }
+
+    @SubscribeEvent
+    public void registerCommands(RegisterCommandsEvent event) {
+        CobbleCommands.register(event.getDispatcher());
+    }
+
+    /*
+     * Chunk sections are built against the level, whose tint cache already remembers the blended color per position.
+     * It is cleared for a chunk when that chunk loads, and entirely when the biome blend radius changes.
+     */
     public void colorGeneratorBlockWater(RegisterColorHandlersEvent.Block event) {
         event.register(
             (state, env, pos, index) -> index == 0 ? env != null && pos != null ? BiomeColors.getAverageWaterColor(env, pos) : PLAINS : -1,
@@ -7,7 +7,11 @@ package net.minecraftforge.lex.cfd;
 import javax.annotation.Nullable;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.ScheduledTickAccess;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.state.BlockState;
@@ -39,6 +43,15 @@ public class CobbleGenBlock extends Block implements EntityBlock {
     @Nullable
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState blockState, BlockEntityType<T> blockEntityType) {
+        // Nothing to do on the client, and the server side is driven by GeneratorScheduler when enabled.
+        if (level.isClientSide || Config.SERVER.scheduler.get())
+            return null;
+
+        // Lazy generators calculate their buffer when it is accessed, so only the ones that push need to tick.
+        var config = Config.getSettings(tier);
+        if (config.global().lazy() && !config.pushes())
+            return null;
+
         for (int i = 1; i <= CobbleForDays.TIER_COUNT; i++) {
             if (blockEntityType == CobbleForDays.getTier(i).tile().get())
                 return (BlockEntityTicker<T>) new CobbleGenTile.Ticker();
@@ -46,9 +59,25 @@ public class CobbleGenBlock extends Block implements EntityBlock {
         return null;
     }
 
+    /*
+     * Shape updates say which side they came from, so only that face is looked up again. The tile ignores faces it
+     * has never pushed out of.
+     */
+    @Override
+    protected BlockState updateShape(BlockState state, LevelReader level, ScheduledTickAccess ticks, BlockPos pos, Direction direction, BlockPos neighborPos, BlockState neighborState, RandomSource random) {
+        if (level.getBlockEntity(pos) instanceof CobbleGenTile tile)
+            tile.invalidateCache(direction);
+        return state;
+    }
+
+    /*
+     * A block entity next to us can start offering an inventory without its block changing, and only tell us with a
+     * neighbor update, which doesn't say which side. So every face is looked up again the next time it's needed.
+     */
     @Override
     public void neighborChanged(BlockState state, Level level, BlockPos pos, Block block, @Nullable Orientation orientation, boolean unknown) {
-        ((CobbleGenTile)level.getBlockEntity(pos)).updateCache();
+        if (!level.isClientSide && level.getBlockEntity(pos) instanceof CobbleGenTile tile)
+            tile.invalidateCaches();
     }
 
     @Override
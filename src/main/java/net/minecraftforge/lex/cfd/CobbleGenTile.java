@@ -7,6 +7,7 @@ package net.minecraftforge.lex.cfd;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.entity.BlockEntityTicker;
@@ -19,139 +20,657 @@ import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemHandlerHelper;
-import net.minecraftforge.lex.cfd.Config.Server.Tier;
+import net.minecraftforge.lex.cfd.Config.Settings;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public class CobbleGenTile extends BlockEntity {
-    private final ConfigCache config;
-    private final LazyOptional<IItemHandler> inventory = LazyOptional.of(Inventory::new);
-    private LazyOptional<IItemHandler> cache = null;
-    private int count = 0;
-    private int timer = 20;
-    private int configTimer = 200;
-
-    public CobbleGenTile(Tier tier, BlockEntityType<?> tileType, BlockPos blockPos, BlockState blockState) {
+    private static final int MAX_BACKOFF = 64;
+    private static final ItemStack BULK_ITEM = new ItemStack(Items.COBBLESTONE);
+
+    final int tier;
+    // Created on first use, most generators are never looked at
+    private LazyOptional<IItemHandler> inventory = null;
+    private LazyOptional<IBulkItemSource> bulk = null;
+    private PushTarget[] targets = null;
+    private int nextFace = 0;
+    private PushTarget.Stack pushStack = null;
+    private long nextPush = 0;
+    private int backoff = 0;
+    // Settled off thread ahead of update, see produce
+    private boolean produced = false;
+    private Settings[] dormant = null;
+
+    // What clients were last told, see FillSync
+    int fill = 0;
+
+    // Only meaningful on the root of a cluster
+    long count = 0;
+    int timer = 20;
+    long lastTick = -1;
+    boolean frozen = false;
+    // For crediting the time our chunk wasn't loaded
+    private long savedTime = -1;
+    private int savedSize = 1;
+    private boolean unloaded = false;
+
+    // Owned by GeneratorScheduler
+    GeneratorScheduler scheduler = null;
+    long due = -1;
+    long visited = -1;
+    boolean waiting = false;
+
+    // Owned by GeneratorCluster
+    GeneratorCluster cluster = null;
+
+    // See DirtyTracker
+    private long lastChanged = 0;
+    private long changedCount = 0;
+    private boolean pending = false;
+
+    public CobbleGenTile(int tier, BlockEntityType<?> tileType, BlockPos blockPos, BlockState blockState) {
         super(tileType, blockPos, blockState);
-        this.config = new ConfigCache(tier);
-        this.timer = tier.interval.get();
+        this.tier = tier;
+        this.timer = config().interval();
+    }
+
+    private Settings config() {
+        return Config.getSettings(tier);
+    }
+
+    CobbleGenTile root() {
+        return cluster == null ? this : cluster.leader;
+    }
+
+    int size() {
+        return cluster == null ? 1 : cluster.members.size();
+    }
+
+    long capacity() {
+        return capacity(size());
+    }
+
+    private long capacity(int size) {
+        return Buffer.multiply(config().max(), size);
     }
 
     @Override
     @Nonnull
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side) {
        if (!this.remove && cap == ForgeCapabilities.ITEM_HANDLER)
-          return inventory.cast();
+          return (inventory == null ? inventory = LazyOptional.of(Inventory::new) : inventory).cast();
+       if (!this.remove && cap == CobbleForDays.BULK_ITEMS)
+          return (bulk == null ? bulk = LazyOptional.of(BulkSource::new) : bulk).cast();
        return super.getCapability(cap, side);
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel server) {
+            long now = server.getGameTime();
+            lastTick = now;
+            // Newest save wins, with the store off its entry moves back into our chunk
+            var store = store();
+            var entry = store.get(worldPosition);
+            if (entry != null) {
+                if (entry.time() >= savedTime) {
+                    count = entry.count();
+                    timer = entry.timer();
+                    savedTime = entry.time();
+                    frozen = entry.frozen();
+                    savedSize = Math.max(1, entry.size());
+                }
+                if (!usesStore()) {
+                    store.remove(worldPosition);
+                    setChanged();
+                }
+            }
+            if (savedTime >= 0 && savedTime < now) {
+                // Only roots save a time, and credit the whole cluster as it may not have rejoined yet
+                long offline = Math.min(now - savedTime, config().offline());
+                if (offline > 0) {
+                    lastTick = now - offline;
+                    if (settle(now, savedSize))
+                        markChanged();
+                }
+            }
+            savedTime = -1;
+            savedSize = 1;
+            GeneratorIndex.add(this);
+            if (Config.SERVER.scheduler.get())
+                GeneratorScheduler.get(server).add(this);
+            if (config().global().clusters())
+                GeneratorCluster.join(this);
+        }
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        unloaded = true;
+        if (usesStore()) {
+            if (root() == this)
+                settle();
+            store().put(this);
+        }
+        GeneratorScheduler.remove(this);
+        GeneratorIndex.remove(this);
+        // Clusters never span chunks, so there is nothing to split
+        cluster = null;
+        super.onChunkUnloaded();
+    }
+
     @Override
     public void setRemoved() {
-        inventory.invalidate();
+        // In any mode, so a generator placed here later doesn't pick up our buffer
+        if (!unloaded && level instanceof ServerLevel)
+            store().remove(worldPosition);
+        GeneratorScheduler.remove(this);
+        GeneratorIndex.remove(this);
+        if (pending)
+            DirtyTracker.remove(this);
+        GeneratorCluster.leave(this);
+        if (inventory != null)
+            inventory.invalidate();
+        if (bulk != null)
+            bulk.invalidate();
         super.setRemoved();
     }
 
-
     @Override
     public void loadAdditional(CompoundTag nbt, HolderLookup.Provider regs) {
         super.loadAdditional(nbt, regs);
-        count = nbt.contains("count") ? nbt.getInt("count") : 0;
-        timer = nbt.contains("timer") ? nbt.getInt("timer") : 0;
+        // Older versions saved an int, getLong reads those too
+        count = nbt.contains("count") ? Math.max(0, nbt.getLong("count")) : 0;
+        timer = nbt.contains("timer") ? nbt.getInt("timer") : config().interval();
+        if (nbt.contains("fill"))
+            fill = nbt.getByte("fill");
+        savedTime = nbt.contains("time") ? nbt.getLong("time") : -1;
+        savedSize = nbt.contains("size") ? Math.max(1, nbt.getInt("size")) : 1;
+        frozen = nbt.getBoolean("frozen");
+    }
+
+    /*
+     * Only the player getting the chunk sees this, so it doesn't touch what FillSync last sent.
+     */
+    @Override
+    public CompoundTag getUpdateTag(HolderLookup.Provider regs) {
+        var ret = new CompoundTag();
+        ret.putByte("fill", (byte)(level != null && !level.isClientSide ? FillSync.fill(this) : fill));
+        return ret;
+    }
+
+    /*
+     * 0 to 16, on the client as of the last sync.
+     */
+    public int getFill() {
+        return level == null || level.isClientSide ? fill : FillSync.fill(this);
     }
 
     @Override
     public void saveAdditional(CompoundTag nbt, HolderLookup.Provider regs) {
         super.saveAdditional(nbt, regs);
-        nbt.putInt("count", count);
+        if (usesStore()) {
+            if (root() == this)
+                settle();
+            store().put(this);
+            return;
+        }
+        // Members only need a timer in case they load up on their own
+        if (root() != this) {
+            nbt.putInt("timer", timer);
+            return;
+        }
+        settle(); // Written right here, no need to mark dirty
+        nbt.putLong("count", count);
         nbt.putInt("timer", timer);
+        if (level != null && !level.isClientSide)
+            nbt.putLong("time", level.getGameTime());
+        if (size() > 1)
+            nbt.putInt("size", size());
+        if (frozen)
+            nbt.putBoolean("frozen", true);
     }
 
-    public void updateCache() {
-        BlockEntity tileEntity = level != null && level.isLoaded(worldPosition.above()) ? level.getBlockEntity(worldPosition.above()) : null;
-        if (tileEntity != null){
-            LazyOptional<IItemHandler> lazyOptional = tileEntity.getCapability(ForgeCapabilities.ITEM_HANDLER, Direction.DOWN);
-            if (lazyOptional.isPresent()) {
-                if (this.cache != lazyOptional) {
-                    this.cache = lazyOptional;
-                    cache.addListener(l -> updateCache());
-                }
+    private void updateCache(Direction face) {
+        if (GeneratorProfiler.enabled)
+            GeneratorProfiler.rebuilt(this);
+
+        var target = target(face);
+        if (!GeneratorEvents.isRebuildEnabled()) {
+            rebuildCache(target, face);
+            return;
+        }
+
+        var event = new GeneratorEvents.CacheRebuild();
+        event.begin();
+        rebuildCache(target, face);
+        event.at(this);
+        event.face = face.getSerializedName();
+        event.found = target.cache.isPresent();
+        event.commit();
+    }
+
+    private void rebuildCache(PushTarget target, Direction face) {
+        var pos = worldPosition.relative(face);
+        BlockEntity tileEntity = level != null && level.isLoaded(pos) ? level.getBlockEntity(pos) : null;
+        LazyOptional<IItemHandler> lazyOptional = tileEntity == null ? LazyOptional.empty() : tileEntity.getCapability(ForgeCapabilities.ITEM_HANDLER, face.getOpposite());
+        if (!lazyOptional.isPresent())
+            lazyOptional = LazyOptional.empty();
+
+        target.stale = false;
+        target.blocked = false;
+        if (target.cache != lazyOptional) {
+            target.set(lazyOptional);
+            // Listeners can't be removed, so add one per capability at most
+            if (lazyOptional.isPresent() && target.listening != lazyOptional) {
+                target.listening = lazyOptional;
+                lazyOptional.addListener(target.listener);
             }
-            else cache = LazyOptional.empty();
         }
-        else cache = LazyOptional.empty();
+
+        root().resetBackoff();
     }
 
-    private LazyOptional<IItemHandler> getCache() {
-        if (cache == null)
-            updateCache();
-        return cache;
+    private PushTarget target(Direction face) {
+        if (targets == null)
+            targets = new PushTarget[Direction.values().length];
+        var ret = targets[face.ordinal()];
+        if (ret == null) {
+            var target = new PushTarget();
+            target.listener = cap -> onInvalidated(target, cap);
+            targets[face.ordinal()] = ret = target;
+        }
+        return ret;
     }
 
-    private void push() {
-        ItemStack stack = new ItemStack(Items.COBBLESTONE, count);
-        ItemStack result = getCache()
-                .map(iItemHandler -> ItemHandlerHelper.insertItemStacked(iItemHandler, stack, false))
-                .orElse(stack);
+    private void onInvalidated(PushTarget target, LazyOptional<IItemHandler> cap) {
+        if (cap == target.cache && !isRemoved()) {
+            target.stale = true;
+            root().resetBackoff();
+            root().wake();
+        }
+    }
+
+    /*
+     * Looked up again on the next push, not now, neighbor updates come in bursts.
+     */
+    public void invalidateCache(Direction face) {
+        var target = targets == null ? null : targets[face.ordinal()];
+        if (target == null)
+            return;
+        target.stale = true;
+        root().resetBackoff();
+        root().wake();
+    }
+
+    public void invalidateCaches() {
+        if (targets == null)
+            return;
+        for (var target : targets) {
+            if (target != null)
+                target.stale = true;
+        }
+        root().resetBackoff();
+        root().wake();
+    }
+
+    void resetBackoff() {
+        if (backoff == 0)
+            return;
+        backoff = 0;
+        nextPush = 0;
+        wake();
+    }
+
+    /*
+     * Full with nowhere to push, until woken. A config change is a new snapshot, so it wakes us for free.
+     */
+    boolean isDormant() {
+        return dormant != null && dormant == Config.getSettings();
+    }
 
-        if (result.isEmpty()) {
-            count = 0;
+    void wake() {
+        dormant = null;
+        if (scheduler != null)
+            scheduler.wake(this);
+    }
+
+    /*
+     * Rate limited setChanged, DirtyTracker flushes whatever we hold back.
+     */
+    private void markChanged() {
+        if (level == null || level.isClientSide) {
             setChanged();
-        } else if (result.getCount() != count) {
-            count = result.getCount();
+            return;
+        }
+
+        var global = config().global();
+        int threshold = global.dirtyThreshold();
+        if (level.getGameTime() - lastChanged >= global.dirtyInterval() || (threshold > 0 && Math.abs(count - changedCount) >= threshold)) {
+            if (pending)
+                DirtyTracker.remove(this);
+            flushChanged();
+        } else if (!pending) {
+            pending = true;
+            DirtyTracker.add(this);
+        }
+    }
+
+    void flushChanged() {
+        flushed();
+        if (!usesStore())
             setChanged();
+    }
+
+    void flushed() {
+        pending = false;
+        changedCount = count;
+        lastChanged = level.getGameTime();
+        if (usesStore())
+            store().put(this);
+    }
+
+    boolean usesStore() {
+        return level instanceof ServerLevel && config().global().store();
+    }
+
+    private GeneratorStore store() {
+        return GeneratorStore.get((ServerLevel)level);
+    }
+
+    private LazyOptional<IItemHandler> getCache(PushTarget target, Direction face) {
+        if (target.cache == null || target.stale)
+            updateCache(face);
+        return target.cache;
+    }
+
+    boolean hasTarget() {
+        var outputs = config().outputs();
+        for (int x = 0; x < outputs.size(); x++) {
+            var face = outputs.get(x);
+            if (getCache(target(face), face).isPresent())
+                return true;
         }
+        return false;
     }
 
-    public static class Ticker implements BlockEntityTicker<CobbleGenTile> {
-        @Override
-        public void tick(Level level, BlockPos blockPos, BlockState blockState, CobbleGenTile cobbleGen) {
-            if(level.isClientSide) return;
-            if(--cobbleGen.timer <= 0) {
-                cobbleGen.count += cobbleGen.config.count;
-                cobbleGen.timer = cobbleGen.config.interval;
+    private boolean hasSink() {
+        return cluster == null ? hasTarget() : cluster.hasSink();
+    }
 
-                if(cobbleGen.count > cobbleGen.config.max) cobbleGen.count = cobbleGen.config.max;
-                if(cobbleGen.count < 0) cobbleGen.count = 0;
+    private void push() {
+        if (count <= 0)
+            return;
 
-                cobbleGen.setChanged();
-            }
+        if (pushStack == null)
+            pushStack = new PushTarget.Stack();
+
+        int attempt = (int)Math.min(count, Integer.MAX_VALUE);
+        int left = cluster == null ? push(pushStack, attempt) : cluster.push(pushStack, attempt);
+        if (left != attempt) {
+            count -= attempt - left;
+            markChanged();
+        }
+    }
 
-            if(cobbleGen.config.pushes && cobbleGen.count > 0 && cobbleGen.getCache().isPresent()) {
-                cobbleGen.push();
+    /*
+     * Returns how many didn't fit. Blocked faces are skipped until their inventory changes, or every face is blocked.
+     */
+    int push(PushTarget.Stack stack, int left) {
+        var outputs = config().outputs();
+        int size = outputs.size();
+        int found = 0;
+        int open = 0;
+        for (int x = 0; x < size; x++) {
+            var face = outputs.get(x);
+            var target = target(face);
+            if (getCache(target, face).isPresent()) {
+                found++;
+                if (!target.blocked)
+                    open++;
             }
+        }
+        if (found == 0)
+            return left;
+
+        boolean retry = open == 0;
+        if (retry)
+            open = found;
+
+        int start = nextFace % size;
+        nextFace = (start + 1) % size;
+        for (int x = 0; x < size && left > 0; x++) {
+            var target = target(outputs.get((start + x) % size));
+            IItemHandler handler = target.cache.orElse(null);
+            if (handler == null || (target.blocked && !retry))
+                continue;
+
+            int share = Math.ceilDiv(left, open--);
+            int remaining = target.insert(handler, stack, share);
+            target.blocked = remaining == share;
+            left -= share - remaining;
+        }
+        return left;
+    }
+
+    /*
+     * settle, without changing anything.
+     */
+    long projected(long now) {
+        if (lastTick < 0 || now <= lastTick || frozen)
+            return count;
+        var config = config();
+        long steps = Buffer.steps(timer, now - lastTick, config.interval());
+        return steps == 0 ? count : Buffer.produce(count, steps, Buffer.multiply(config.count(), size()), capacity());
+    }
+
+    /*
+     * Same as decrementing the timer once per tick since lastTick. Returns true if the count changed.
+     */
+    boolean settle(long now) {
+        return settle(now, size());
+    }
+
+    private boolean settle(long now, int size) {
+        if (lastTick < 0 || now <= lastTick || frozen) {
+            if (lastTick < 0 || frozen)
+                lastTick = now;
+            return false;
+        }
 
-            if(--cobbleGen.configTimer <= 0) {
-                cobbleGen.config.update();
-                cobbleGen.configTimer = 200;
+        var config = config();
+        long elapsed = now - lastTick;
+        long steps = Buffer.steps(timer, elapsed, config.interval());
+        timer = Buffer.timer(timer, elapsed, config.interval());
+        lastTick = now;
+        if (steps == 0)
+            return false;
+
+        long old = count;
+        count = Buffer.produce(count, steps, Buffer.multiply(config.count(), size), capacity(size));
+        if (GeneratorProfiler.enabled)
+            GeneratorProfiler.produced(this, count - old);
+        if (GeneratorEvents.isProduceEnabled()) {
+            var event = new GeneratorEvents.Production();
+            event.at(this);
+            event.produced = count - old;
+            event.buffered = count;
+            event.commit();
+        }
+        return count != old;
+    }
+
+    private boolean settle() {
+        if (level == null || level.isClientSide)
+            return false;
+        return settle(level.getGameTime());
+    }
+
+    /*
+     * Returns the game time we next need attention, or -1 for never.
+     */
+    long tick(long now) {
+        if (!GeneratorProfiler.enabled)
+            return update(now);
+
+        long start = System.nanoTime();
+        long ret = update(now);
+        GeneratorProfiler.tick(this, System.nanoTime() - start);
+        return ret;
+    }
+
+    /*
+     * Only touches our own buffer, so the scheduler may run it off thread.
+     */
+    void produce(long now) {
+        if (root() == this && settle(now))
+            produced = true;
+    }
+
+    private long update(long now) {
+        if (root() != this)
+            return -1;
+
+        boolean changed = settle(now);
+        if (changed || produced) {
+            produced = false;
+            markChanged();
+        }
+        if (frozen)
+            return -1;
+
+        var config = config();
+        if (!config.pushes() && config.global().lazy())
+            return -1;
+
+        long next = now + timer;
+        if (!config.pushes() || !hasSink()) {
+            long cap = capacity();
+            if (count >= cap) {
+                dormant = Config.getSettings();
+                return -1;
             }
+            // Sleep until full
+            long steps = Math.ceilDiv(cap - count, Buffer.multiply(config.count(), size()));
+            return Buffer.add(next, Buffer.multiply(steps - 1, config.interval()));
+        }
 
+        long threshold = Math.min(config.pushThreshold(), capacity());
+        if (count >= threshold && now >= nextPush) {
+            long old = count;
+            if (GeneratorEvents.isPushEnabled()) {
+                var event = new GeneratorEvents.Push();
+                event.begin();
+                push();
+                event.at(this);
+                event.attempted = old;
+                event.inserted = old - count;
+                event.commit();
+            } else {
+                push();
+            }
+            if (GeneratorProfiler.enabled)
+                GeneratorProfiler.pushed(this, old - count);
+            if (count == old) {
+                // As a long, pushInterval can be up to Integer.MAX_VALUE
+                backoff = backoff == 0 ? config.pushInterval() : (int)Math.min(backoff * 2L, Math.max(MAX_BACKOFF, config.pushInterval()));
+                nextPush = now + backoff;
+            } else {
+                backoff = 0;
+                nextPush = now + config.pushInterval();
+            }
         }
+
+        if (count >= threshold)
+            return Math.max(nextPush, now + 1);
+
+        long steps = Math.ceilDiv(threshold - count, Buffer.multiply(config.count(), size()));
+        return Math.max(nextPush, Buffer.add(next, Buffer.multiply(steps - 1, config.interval())));
+    }
+
+    void drain() {
+        var root = root();
+        root.settle();
+        root.count = 0;
+        root.markChanged();
+        root.wake();
+    }
+
+    /*
+     * Frozen time is never made up for, but the buffer can still be emptied.
+     */
+    void setFrozen(boolean value) {
+        var root = root();
+        if (root.frozen == value)
+            return;
+        root.settle();
+        root.frozen = value;
+        root.flushChanged();
+        root.wake();
+    }
+
+    boolean isFrozen() {
+        return root().frozen;
+    }
+
+    long buffered() {
+        var root = root();
+        if (root.settle())
+            root.markChanged();
+        return root.count;
     }
 
-    private static class ConfigCache {
-        private final Tier tier;
-        private int interval;
-        private int count;
-        private int max;
-        private boolean pushes;
+    /*
+     * Instead of tick while our chunk isn't ticking. Whatever we slept through before that is credited.
+     */
+    long skip(long now) {
+        if (root() == this && settle(now))
+            markChanged();
+        lastTick = now;
+        return now + timer;
+    }
 
-        private ConfigCache(Tier tier) {
-            this.tier = tier;
-            update();
+    /*
+     * Count is set first, an empty stack claims to be air.
+     */
+    private static ItemStack reuse(@Nullable ItemStack stack, int count) {
+        if (stack != null) {
+            stack.setCount(count);
+            if (unchanged(stack, count))
+                return stack;
         }
+        return new ItemStack(Items.COBBLESTONE, count);
+    }
+
+    /*
+     * Never changes last, the caller gets to keep it.
+     */
+    private static ItemStack offer(@Nullable ItemStack last, int count) {
+        return last != null && unchanged(last, count) ? last : new ItemStack(Items.COBBLESTONE, count);
+    }
+
+    private static boolean unchanged(ItemStack stack, int count) {
+        return stack.getCount() == count && stack.getItem() == Items.COBBLESTONE && stack.isComponentsPatchEmpty();
+    }
 
-        private void update() {
-            this.interval = this.tier.interval.get();
-            this.count = this.tier.count.get();
-            this.max = this.tier.max.get();
-            this.pushes = this.tier.pushes.get();
+    public static class Ticker implements BlockEntityTicker<CobbleGenTile> {
+        @Override
+        public void tick(Level level, BlockPos blockPos, BlockState blockState, CobbleGenTile cobbleGen) {
+            if(level.isClientSide || cobbleGen.isDormant()) return;
+            cobbleGen.tick(level.getGameTime());
         }
     }
 
+    /*
+     * getStackInSlot reuses one stack. Simulated extracts are the caller's to keep, so they reuse the last one only if
+     * it's unchanged.
+     */
     private class Inventory implements IItemHandler {
-        private final ItemStack stack = new ItemStack(Items.COBBLESTONE, 0);
+        private ItemStack stack = null;
+        private ItemStack simulated = null;
+
         @Override
         public int getSlots() {
             return 1;
@@ -159,22 +678,32 @@ public class CobbleGenTile extends BlockEntity {
 
         @Override
         public ItemStack getStackInSlot(int slot) {
-            stack.setCount(count);
-            return stack;
+            var root = root();
+            if (root.settle())
+                root.markChanged();
+            if (root.count == 0)
+                return ItemStack.EMPTY;
+            return stack = reuse(stack, (int)Math.min(root.count, Integer.MAX_VALUE));
         }
 
         @Override
         public ItemStack extractItem(int slot, int amount, boolean simulate) {
-            if (count == 0 || amount == 0)
+            var root = root();
+            if (root.settle())
+                root.markChanged();
+            int ret = Buffer.take(root.count, amount);
+            if (ret == 0)
                 return ItemStack.EMPTY;
-            int ret = Math.min(count, amount);
-            if (!simulate) {
-                count -= ret;
-                CobbleGenTile.this.setChanged();
-            }
+            if (simulate)
+                return simulated = offer(simulated, ret);
+
+            root.count -= ret;
+            root.markChanged();
+            root.wake();
             return new ItemStack(Items.COBBLESTONE, ret);
         }
 
+
         @Override
         public int getSlotLimit(int slot) {
             return Integer.MAX_VALUE;
@@ -191,7 +720,33 @@ public class CobbleGenTile extends BlockEntity {
         }
     }
 
+    private class BulkSource implements IBulkItemSource {
+        @Override
+        public ItemStack getItem() {
+            return BULK_ITEM;
+        }
+
+        @Override
+        public long getAmount() {
+            return buffered();
+        }
+
+        @Override
+        public long extract(long amount, boolean simulate) {
+            var root = root();
+            if (root.settle())
+                root.markChanged();
+            long ret = Math.min(root.count, Math.max(amount, 0));
+            if (ret > 0 && !simulate) {
+                root.count -= ret;
+                root.markChanged();
+                root.wake();
+            }
+            return ret;
+        }
+    }
+
     public static CobbleGenTile create(int tier, BlockPos blockPos, BlockState blockState) {
-        return new CobbleGenTile(Config.SERVER.getTier(tier), CobbleForDays.getTier(tier).tile().get(), blockPos, blockState);
+        return new CobbleGenTile(tier, CobbleForDays.getTier(tier).tile().get(), blockPos, blockState);
     }
 }
@@ -4,12 +4,23 @@
  */
 package net.minecraftforge.lex.cfd;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.apache.commons.lang3.tuple.Pair;
 
+import net.minecraft.core.Direction;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
+import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
 import net.minecraftforge.common.ForgeConfigSpec.IntValue;
+import net.minecraftforge.common.ForgeConfigSpec.LongValue;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 
+@EventBusSubscriber(modid = CobbleForDays.MODID, bus = Bus.MOD)
 public class Config {
     public static class Server {
         public static final String PREFIX = "cfd.configgui.";
@@ -18,10 +29,84 @@ public class Config {
         public final Tier tier3;
         public final Tier tier4;
         public final Tier tier5;
+        public final BooleanValue scheduler;
+        public final BooleanValue lazy;
+        public final BooleanValue clusters;
+        public final IntValue dirtyInterval;
+        public final IntValue dirtyThreshold;
+        public final IntValue parallel;
+        public final IntValue syncInterval;
+        public final IntValue budget;
+        public final BooleanValue store;
 
         Server(ForgeConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                    .push("server");
+
+            scheduler = builder
+                    .comment("Set to true to update all generators in a level from a single scheduler, which only visits generators that are due.",
+                             "Set to false to give every generator its own block entity ticker.")
+                    .translation(PREFIX + "scheduler")
+                    .worldRestart()
+                    .define("scheduler", true);
+
+            lazy = builder
+                    .comment("Set to true to stop ticking generators that do not push, their buffer is calculated from the game time whenever it is accessed.")
+                    .translation(PREFIX + "lazy")
+                    .worldRestart()
+                    .define("lazy", true);
+
+            clusters = builder
+                    .comment("Set to true to merge touching generators of the same tier, within the same chunk, into one generator with a shared buffer.",
+                             "A cluster produces and holds as much as all of its members combined, and pushes into the inventories around all of them.")
+                    .translation(PREFIX + "clusters")
+                    .worldRestart()
+                    .define("clusters", false);
+
+            dirtyInterval = builder
+                    .comment("The minimum number of ticks between a generator marking its chunk as needing to be saved.",
+                             "Changes held back are marked every this many ticks, so an autosave misses at most the changes from this many ticks before it,",
+                             "which the next autosave picks up. Chunks unloading and the server stopping always save everything.",
+                             "A chunk is written once per autosave however often it was marked, and vanilla autosaves every 6000 ticks. So the default,",
+                             "twice that, has a chunk that only changed because of generators written by every other autosave. Anything under 6000 writes it",
+                             "every time, and only loses less progress if the server crashes.")
+                    .translation(PREFIX + "dirty_interval")
+                    .defineInRange("dirtyInterval", 12000, 1, Integer.MAX_VALUE);
+
+            dirtyThreshold = builder
+                    .comment("Mark the chunk as needing to be saved right away once a generator's buffer has changed by this many items since it last did.",
+                             "Set to 0 to only use dirtyInterval.")
+                    .translation(PREFIX + "dirty_threshold")
+                    .defineInRange("dirtyThreshold", 0, 0, Integer.MAX_VALUE);
+
+            parallel = builder
+                    .comment("When at least this many generators are due in the same tick, work out what they produced on all cores before pushing on the server thread,",
+                             "this many at a time for as long as the budget lasts.",
+                             "Only used by the scheduler, and never while '/cfd profile' is running. Set to 0 to always stay on the server thread.")
+                    .translation(PREFIX + "parallel")
+                    .defineInRange("parallel", 4096, 0, Integer.MAX_VALUE);
+
+            syncInterval = builder
+                    .comment("The number of ticks between telling nearby players how full generators are, in sixteenths, for overlays.",
+                             "Only generators whose fill changed are sent, one packet per chunk. Set to 0 to never send them.")
+                    .translation(PREFIX + "sync_interval")
+                    .defineInRange("syncInterval", 20, 0, Integer.MAX_VALUE);
+
+            budget = builder
+                    .comment("The most time, in microseconds, the scheduler spends updating generators each tick, across every level.",
+                             "Generators that don't fit wait for the next tick, without losing any production. Only a quarter of this is used while the server",
+                             "is falling behind, an average tick over 50ms. Set to 0 for no limit.")
+                    .translation(PREFIX + "budget")
+                    .defineInRange("budget", 10_000, 0, Integer.MAX_VALUE);
+
+            store = builder
+                    .comment("Set to true to save every generator's buffer in one file per level, instead of in the chunk it's in.",
+                             "Generators then never cause their chunk to be saved again. Switching either way moves each generator's buffer over",
+                             "the next time its chunk loads.")
+                    .translation(PREFIX + "store")
+                    .worldRestart()
+                    .define("store", false);
+
             tier1 = new Tier(builder, "1", 1, 40, 64* 1, true);
             tier2 = new Tier(builder, "2", 1, 20, 64* 2, true);
             tier3 = new Tier(builder, "3", 1, 10, 64* 4, true);
@@ -42,12 +127,16 @@ public class Config {
         }
 
         public static class Tier {
-            public final IntValue count;
+            public final LongValue count;
             public final IntValue interval;
-            public final IntValue max;
+            public final LongValue max;
             public final BooleanValue pushes;
+            public final IntValue pushInterval;
+            public final IntValue pushThreshold;
+            public final ConfigValue<List<? extends String>> outputs;
+            public final LongValue offline;
 
-            Tier(ForgeConfigSpec.Builder builder, String name, int count, int interval, int max, boolean pushes) {
+            Tier(ForgeConfigSpec.Builder builder, String name, long count, int interval, long max, boolean pushes) {
                 builder.comment("Tier: " + name)
                        .push(name);
 
@@ -61,29 +150,116 @@ public class Config {
                         .comment("The amount of items to generate every update.")
                         .translation(PREFIX + ".tier_" + name + ".count")
                         .worldRestart()
-                        .defineInRange("count", count, 1, Integer.MAX_VALUE);
+                        .defineInRange("count", count, 1, Long.MAX_VALUE);
 
                 this.max = builder
                         .comment("The maximum amount of items to hold in the internal buffer.")
                         .translation(PREFIX + ".tier_" + name + ".max")
                         .worldRestart()
-                        .defineInRange("max", max, 1, Integer.MAX_VALUE);
+                        .defineInRange("max", max, 1, Long.MAX_VALUE);
 
                 this.pushes = builder
-                        .comment("Set to true to enable automatically pushing to inventories above this block.")
+                        .comment("Set to true to enable automatically pushing to the inventories on this block's output faces.")
                         .translation(PREFIX + ".tier_" + name + ".can_push")
                         .define("pushes", pushes);
 
+                this.pushInterval = builder
+                        .comment("The minimum number of ticks between attempts to push to the inventories on the output faces.",
+                                 "Failed pushes back off further, up to a few seconds, until one of those inventories changes.")
+                        .translation(PREFIX + ".tier_" + name + ".push_interval")
+                        .defineInRange("pushInterval", 1, 1, Integer.MAX_VALUE);
+
+                this.pushThreshold = builder
+                        .comment("The amount of items to hold in the internal buffer before trying to push, a full buffer always pushes.")
+                        .translation(PREFIX + ".tier_" + name + ".push_threshold")
+                        .defineInRange("pushThreshold", 1, 1, Integer.MAX_VALUE);
+
+                this.outputs = builder
+                        .comment("The faces to push out of, any of: " + String.join(", ", Arrays.stream(Direction.values()).map(Direction::getSerializedName).toList()),
+                                 "Each push is split evenly between the faces that have room, starting one face further along every time.")
+                        .translation(PREFIX + ".tier_" + name + ".outputs")
+                        .defineList("outputs", List.of(Direction.UP.getSerializedName()), o -> o instanceof String s && Direction.byName(s) != null);
+
+                this.offline = builder
+                        .comment("The most ticks of production to make up for when a generator's chunk loads again after being unloaded.",
+                                 "The buffer is still limited to max. Set to 0 to only produce while loaded.")
+                        .translation(PREFIX + ".tier_" + name + ".offline")
+                        .defineInRange("offline", 24000L, 0, Long.MAX_VALUE);
+
                 builder.pop();
             }
         }
     }
 
+    /*
+     * Immutable copy of a tier's values, so generators don't have to go through the config spec every time they need one.
+     */
+    public record Settings(long count, int interval, long max, boolean pushes, int pushInterval, int pushThreshold, List<Direction> outputs, long offline, Global global) {
+        private Settings(Server.Tier tier, Global global) {
+            this(tier.count.get(), tier.interval.get(), tier.max.get(), tier.pushes.get(), tier.pushInterval.get(), tier.pushThreshold.get(), outputs(tier.outputs.get()), tier.offline.get(), global);
+        }
+
+        static List<Direction> outputs(List<? extends String> names) {
+            return names.stream().map(Direction::byName).distinct().toList();
+        }
+    }
+
+    /*
+     * The values that aren't specific to a tier, shared by every tier's Settings.
+     */
+    public record Global(boolean lazy, boolean clusters, int dirtyInterval, int dirtyThreshold, int parallel, int syncInterval, int budget, boolean store) {
+        private Global(Server server) {
+            this(server.lazy.get(), server.clusters.get(), server.dirtyInterval.get(), server.dirtyThreshold.get(), server.parallel.get(), server.syncInterval.get(), server.budget.get(), server.store.get());
+        }
+    }
+
     static final ForgeConfigSpec serverSpec;
     public static final Server SERVER;
+    private static volatile Settings[] settings = null;
+    private static volatile Global global = null;
     static {
         final Pair<Server, ForgeConfigSpec> specPair = new ForgeConfigSpec.Builder().configure(Server::new);
         serverSpec = specPair.getRight();
         SERVER = specPair.getLeft();
     }
+
+    public static Settings getSettings(int tier) {
+        return settings[tier - 1];
+    }
+
+    /*
+     * The server wide values, the same record every tier's Settings has.
+     */
+    static Global getGlobal() {
+        return global;
+    }
+
+    /*
+     * The current snapshot of every tier, replaced as a whole when the config changes. Callers can compare it
+     * against the one they saw last to find out if anything changed.
+     */
+    static Settings[] getSettings() {
+        return settings;
+    }
+
+    @SubscribeEvent
+    public static void onLoad(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == serverSpec)
+            refresh();
+    }
+
+    @SubscribeEvent
+    public static void onReload(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == serverSpec)
+            refresh();
+    }
+
+    static void refresh() {
+        var global = new Global(SERVER);
+        var ret = new Settings[CobbleForDays.TIER_COUNT];
+        for (int x = 0; x < ret.length; x++)
+            ret[x] = new Settings(SERVER.getTier(x + 1), global);
+        Config.global = global;
+        settings = ret;
+    }
 }
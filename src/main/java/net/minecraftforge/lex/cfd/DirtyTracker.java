@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayList;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+/*
+ * Generators change their buffer far more often than it is worth rewriting their chunk, so they only mark it
+ * dirty every so often. This keeps track of the ones holding back a change, and marks their chunk every
+ * dirtyInterval ticks, when the chunk unloads, and when the server stops.
+ *
+ * There is no event before an autosave writes the chunks, LevelEvent.Save fires once they're written. So a
+ * change from the last dirtyInterval ticks before an autosave is written by the one after it, unless the chunk
+ * unloads or the server stops first.
+ */
+@EventBusSubscriber(modid = CobbleForDays.MODID)
+public class DirtyTracker {
+    static void add(CobbleGenTile tile) {
+        GeneratorIndex.get(tile.getLevel()).dirty.add(tile);
+    }
+
+    static void remove(CobbleGenTile tile) {
+        var index = GeneratorIndex.getIfPresent(tile.getLevel());
+        if (index != null)
+            index.dirty.remove(tile);
+    }
+
+    private static void flush(@Nullable GeneratorIndex index) {
+        if (index == null || index.dirty.isEmpty())
+            return;
+
+        for (var tile : new ArrayList<>(index.dirty))
+            tile.flushChanged();
+        index.dirty.clear();
+    }
+
+    // Last, so whatever generators did this tick is included
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.level.isClientSide)
+            return;
+        if (event.level.getGameTime() % Config.getGlobal().dirtyInterval() == 0)
+            flush(GeneratorIndex.getIfPresent(event.level));
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        for (var index : GeneratorIndex.all())
+            flush(index);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getChunk() instanceof LevelChunk chunk) || chunk.getLevel().isClientSide)
+            return;
+
+        var index = GeneratorIndex.getIfPresent(chunk.getLevel());
+        if (index == null || index.dirty.isEmpty())
+            return;
+
+        // The chunk is saved right after this, but only if it knows it needs to be.
+        boolean dirty = false;
+        for (var be : chunk.getBlockEntities().values()) {
+            if (be instanceof CobbleGenTile tile && index.dirty.remove(tile)) {
+                tile.flushed();
+                dirty |= !tile.usesStore();
+            }
+        }
+        if (dirty)
+            chunk.markUnsaved();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.network.ChannelBuilder;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.SimpleChannel;
+
+/*
+ * Tells clients roughly how full the generators they can see are, so overlays have something to show without asking
+ * for the whole block entity. Every syncInterval ticks each loaded generator's fill is worked out from the game time,
+ * so lazy ones that nothing settles are included, and the ones whose whole sixteenths changed are sent to the players
+ * tracking their chunk. A wall of generators filling up costs one small packet per chunk instead of a block entity
+ * update per generator.
+ */
+@EventBusSubscriber(modid = CobbleForDays.MODID)
+public class FillSync {
+    static final int STEPS = 16;
+
+    private static final SimpleChannel CHANNEL = ChannelBuilder
+        .named(ResourceLocation.fromNamespaceAndPath(CobbleForDays.MODID, "fill"))
+        .networkProtocolVersion(1)
+        .simpleChannel()
+        .messageBuilder(Message.class, NetworkDirection.PLAY_TO_CLIENT)
+            .encoder(Message::encode)
+            .decoder(Message::decode)
+            .consumerMainThread(Message::handle)
+            .add();
+
+    /*
+     * Called during mod construction, so the channel exists before any connection is made.
+     */
+    static void register() {}
+
+    /*
+     * How full the buffer shared by this generator is right now, in sixteenths. Only full is ever reported as STEPS.
+     */
+    static int fill(CobbleGenTile tile) {
+        var root = tile.root();
+        long cap = root.capacity();
+        long count = root.projected(tile.getLevel().getGameTime());
+        return count >= cap ? STEPS : Math.min(STEPS - 1, (int)(count * (double)STEPS / cap));
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.level.isClientSide)
+            return;
+
+        int interval = Config.getGlobal().syncInterval();
+        if (interval <= 0 || event.level.getGameTime() % interval != 0)
+            return;
+
+        for (var tiles : GeneratorIndex.chunks(event.level)) {
+            List<CobbleGenTile> changed = null;
+            for (var tile : tiles) {
+                int fill = fill(tile);
+                if (fill == tile.fill)
+                    continue;
+                tile.fill = fill;
+                if (changed == null)
+                    changed = new ArrayList<>();
+                changed.add(tile);
+            }
+            if (changed != null)
+                send(event.level, changed);
+        }
+    }
+
+    private static void send(Level level, List<CobbleGenTile> tiles) {
+        var pos = tiles.get(0).getBlockPos();
+        var msg = new Message(pos.getX() >> 4, pos.getZ() >> 4, new BlockPos[tiles.size()], new byte[tiles.size()]);
+        for (int x = 0; x < tiles.size(); x++) {
+            msg.positions[x] = tiles.get(x).getBlockPos();
+            msg.fills[x] = (byte)tiles.get(x).fill;
+        }
+        CHANNEL.send(msg, PacketDistributor.TRACKING_CHUNK.with(level.getChunkAt(pos)));
+    }
+
+    /*
+     * Every position in a message is in the same chunk, so each one is sent as a short for the height and a byte for
+     * where in the chunk it is, plus a byte for the fill.
+     */
+    record Message(int chunkX, int chunkZ, BlockPos[] positions, byte[] fills) {
+        void encode(FriendlyByteBuf buf) {
+            buf.writeVarInt(chunkX);
+            buf.writeVarInt(chunkZ);
+            buf.writeVarInt(positions.length);
+            for (int x = 0; x < positions.length; x++) {
+                buf.writeShort(positions[x].getY());
+                buf.writeByte(((positions[x].getX() & 15) << 4) | (positions[x].getZ() & 15));
+                buf.writeByte(fills[x]);
+            }
+        }
+
+        static Message decode(FriendlyByteBuf buf) {
+            int chunkX = buf.readVarInt();
+            int chunkZ = buf.readVarInt();
+            int size = buf.readVarInt();
+            var ret = new Message(chunkX, chunkZ, new BlockPos[size], new byte[size]);
+            for (int x = 0; x < size; x++) {
+                int y = buf.readShort();
+                int xz = buf.readUnsignedByte();
+                ret.positions[x] = new BlockPos((chunkX << 4) | (xz >> 4), y, (chunkZ << 4) | (xz & 15));
+                ret.fills[x] = buf.readByte();
+            }
+            return ret;
+        }
+
+        void handle(CustomPayloadEvent.Context ctx) {
+            Client.handle(this);
+        }
+    }
+
+    // Kept apart so the server never has to load anything that touches client classes
+    private static class Client {
+        private static void handle(Message msg) {
+            var level = Minecraft.getInstance().level;
+            if (level == null)
+                return;
+            for (int x = 0; x < msg.positions.length; x++) {
+                if (level.getBlockEntity(msg.positions[x]) instanceof CobbleGenTile tile)
+                    tile.fill = msg.fills[x];
+            }
+        }
+    }
+}
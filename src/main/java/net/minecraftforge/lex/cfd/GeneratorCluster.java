@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+/*
+ * A group of touching generators of the same tier that act as one. The leader holds the buffer and timer for
+ * the whole group, and is the only member that gets updated. It produces and holds as much as all members
+ * combined, and pushes into the inventories around every member in turn.
+ *
+ * Clusters never cross a chunk border, so a cluster is always loaded, saved and unloaded as a whole. That
+ * lets the leader save the entire buffer while the other members save nothing.
+ */
+class GeneratorCluster {
+    final List<CobbleGenTile> members = new ArrayList<>();
+    CobbleGenTile leader;
+    private int cursor = 0;
+
+    private GeneratorCluster(CobbleGenTile leader) {
+        this.leader = leader;
+    }
+
+    boolean hasSink() {
+        for (var member : members) {
+            if (member.hasTarget())
+                return true;
+        }
+        return false;
+    }
+
+    /*
+     * Pushes into every member's inventory, starting one further along each time so no single inventory gets
+     * filled first. Returns how many items didn't fit.
+     */
+    int push(PushTarget.Stack stack, int left) {
+        int size = members.size();
+        for (int x = 0; x < size && left > 0; x++)
+            left = members.get((cursor + x) % size).push(stack, left);
+        cursor = (cursor + 1) % size;
+        return left;
+    }
+
+    /*
+     * Merges a newly loaded or placed generator with any matching neighbors. Neighbors that haven't loaded yet are
+     * left alone, they still have their offline time to make up for, and join us when they do.
+     */
+    static void join(CobbleGenTile tile) {
+        var level = tile.getLevel();
+        var pos = tile.getBlockPos();
+        long now = level.getGameTime();
+
+        for (var dir : Direction.values()) {
+            var next = pos.relative(dir);
+            if ((next.getX() >> 4) != (pos.getX() >> 4) || (next.getZ() >> 4) != (pos.getZ() >> 4))
+                continue;
+            if (level.getBlockEntity(next) instanceof CobbleGenTile other && other.tier == tile.tier && !other.isRemoved() && other.lastTick >= 0)
+                merge(tile.root(), other.root(), now);
+        }
+    }
+
+    private static void merge(CobbleGenTile a, CobbleGenTile b, long now) {
+        if (a == b)
+            return;
+
+        a.settle(now);
+        b.settle(now);
+
+        // Fold the smaller group into the larger one
+        if (size(a) < size(b)) {
+            var tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        var cluster = a.cluster;
+        if (cluster == null) {
+            cluster = new GeneratorCluster(a);
+            cluster.members.add(a);
+            a.cluster = cluster;
+        }
+
+        long total = Buffer.add(a.count, b.count);
+        for (var member : b.cluster == null ? List.of(b) : b.cluster.members) {
+            member.cluster = cluster;
+            cluster.members.add(member);
+        }
+
+        // Not clamped, a cluster loading back in joins up one member at a time, and the buffer it had is more than
+        // the first few members can hold. Merging generators that were placed can't go over anyways.
+        a.count = total;
+        a.flushChanged();
+        b.flushChanged(); // It doesn't hold the buffer anymore
+        a.resetBackoff();
+        a.wake();
+    }
+
+    private static int size(CobbleGenTile root) {
+        return root.cluster == null ? 1 : root.cluster.members.size();
+    }
+
+    /*
+     * Removes a generator that was broken, the rest of the cluster keeps its share of the buffer, and is
+     * split up into new clusters if this generator was the only thing connecting them.
+     */
+    static void leave(CobbleGenTile tile) {
+        var cluster = tile.cluster;
+        if (cluster == null)
+            return;
+
+        var old = cluster.leader;
+        var level = tile.getLevel();
+        if (level != null)
+            old.settle(level.getGameTime());
+
+        long count = old.count - old.count / cluster.members.size();
+        cluster.members.remove(tile);
+        tile.cluster = null;
+
+        Map<BlockPos, CobbleGenTile> remaining = new HashMap<>();
+        for (var member : cluster.members)
+            remaining.put(member.getBlockPos(), member);
+
+        int total = remaining.size();
+        long given = 0;
+        var queue = new ArrayDeque<CobbleGenTile>();
+        while (!remaining.isEmpty()) {
+            var start = remaining.values().iterator().next();
+            remaining.remove(start.getBlockPos());
+            queue.add(start);
+
+            var group = new ArrayList<CobbleGenTile>();
+            while (!queue.isEmpty()) {
+                var member = queue.poll();
+                group.add(member);
+                for (var dir : Direction.values()) {
+                    var next = remaining.remove(member.getBlockPos().relative(dir));
+                    if (next != null)
+                        queue.add(next);
+                }
+            }
+
+            var leader = group.get(0);
+            if (group.size() == 1) {
+                leader.cluster = null;
+            } else {
+                var split = new GeneratorCluster(leader);
+                split.members.addAll(group);
+                for (var member : group)
+                    member.cluster = split;
+            }
+
+            // count * size / total, without overflowing
+            long share = remaining.isEmpty() ? count - given : (count / total) * group.size() + (count % total) * group.size() / total;
+            given += share;
+
+            leader.timer = old.timer;
+            leader.lastTick = old.lastTick;
+            leader.frozen = old.frozen;
+            leader.count = Math.min(share, leader.capacity());
+            leader.flushChanged();
+            leader.resetBackoff();
+            leader.wake();
+        }
+    }
+}
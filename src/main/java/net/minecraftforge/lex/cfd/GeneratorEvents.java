@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder events for what generators do, so they can be lined up against GC pauses and chunk IO
+ * in the same recording. Callers check the matching is*Enabled method before creating an event, which is a
+ * field read when no recording wants them.
+ */
+final class GeneratorEvents {
+    private static final EventType PUSH = EventType.getEventType(Push.class);
+    private static final EventType REBUILD = EventType.getEventType(CacheRebuild.class);
+    private static final EventType PRODUCE = EventType.getEventType(Production.class);
+
+    private GeneratorEvents() {}
+
+    static boolean isPushEnabled() {
+        return PUSH.isEnabled();
+    }
+
+    static boolean isRebuildEnabled() {
+        return REBUILD.isEnabled();
+    }
+
+    static boolean isProduceEnabled() {
+        return PRODUCE.isEnabled();
+    }
+
+    @Category({"CobbleForDays", "Generator"})
+    @StackTrace(false)
+    static abstract class GeneratorEvent extends Event {
+        @Label("X")
+        int x;
+        @Label("Y")
+        int y;
+        @Label("Z")
+        int z;
+        @Label("Tier")
+        int tier;
+
+        void at(CobbleGenTile tile) {
+            var pos = tile.getBlockPos();
+            this.x = pos.getX();
+            this.y = pos.getY();
+            this.z = pos.getZ();
+            this.tier = tile.tier;
+        }
+    }
+
+    @Name("cobblefordays.Push")
+    @Label("Generator Push")
+    @Description("A generator pushing its buffer into the inventories on its output faces")
+    static class Push extends GeneratorEvent {
+        @Label("Attempted")
+        long attempted;
+        @Label("Inserted")
+        long inserted;
+    }
+
+    @Name("cobblefordays.CacheRebuild")
+    @Label("Generator Cache Rebuild")
+    @Description("A generator looking up the inventory on one of its output faces after a neighbor update or capability invalidation")
+    static class CacheRebuild extends GeneratorEvent {
+        @Label("Face")
+        String face;
+        @Label("Found Inventory")
+        boolean found;
+    }
+
+    @Name("cobblefordays.Production")
+    @Label("Generator Production")
+    @Description("Items added to a generator's buffer, one event covers every step since it was last settled")
+    @Enabled(false) // One per generator per interval, so only when asked for
+    static class Production extends GeneratorEvent {
+        @Label("Produced")
+        long produced;
+        @Label("Buffered")
+        long buffered;
+    }
+}
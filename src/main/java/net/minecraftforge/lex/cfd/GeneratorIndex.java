@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+/*
+ * Every loaded generator on the server, by level and chunk, so finding the ones in an area only looks at the chunks
+ * in that area instead of every block entity in the level. Generators add themselves when they load, and remove
+ * themselves when they're broken or their chunk unloads.
+ *
+ * Anything else we keep per level lives here too, so it all goes away with the level in one place.
+ */
+@EventBusSubscriber(modid = CobbleForDays.MODID)
+public class GeneratorIndex {
+    private static final Map<Level, GeneratorIndex> LEVELS = new IdentityHashMap<>();
+
+    private final Long2ObjectOpenHashMap<Set<CobbleGenTile>> chunks = new Long2ObjectOpenHashMap<>();
+    final Set<CobbleGenTile> dirty = Collections.newSetFromMap(new IdentityHashMap<>()); // See DirtyTracker
+    GeneratorScheduler scheduler = null; // See GeneratorScheduler.get
+
+    static GeneratorIndex get(Level level) {
+        return LEVELS.computeIfAbsent(level, k -> new GeneratorIndex());
+    }
+
+    @Nullable
+    static GeneratorIndex getIfPresent(Level level) {
+        return LEVELS.get(level);
+    }
+
+    static Collection<GeneratorIndex> all() {
+        return LEVELS.values();
+    }
+
+    static void add(CobbleGenTile tile) {
+        get(tile.getLevel()).chunks
+            .computeIfAbsent(ChunkPos.asLong(tile.getBlockPos()), k -> Collections.newSetFromMap(new IdentityHashMap<>()))
+            .add(tile);
+    }
+
+    static void remove(CobbleGenTile tile) {
+        if (tile.getLevel() == null)
+            return;
+        var index = LEVELS.get(tile.getLevel());
+        if (index == null)
+            return;
+
+        long key = ChunkPos.asLong(tile.getBlockPos());
+        var tiles = index.chunks.get(key);
+        if (tiles != null && tiles.remove(tile) && tiles.isEmpty())
+            index.chunks.remove(key);
+    }
+
+    /*
+     * The loaded generators in the given level, one set per chunk.
+     */
+    static Collection<Set<CobbleGenTile>> chunks(Level level) {
+        var index = LEVELS.get(level);
+        return index == null ? List.of() : index.chunks.values();
+    }
+
+    /*
+     * Every generator of the given tier, or any tier if 0, within radius blocks of center on the X and Z axis.
+     */
+    static List<CobbleGenTile> find(Level level, BlockPos center, int radius, int tier) {
+        var ret = new ArrayList<CobbleGenTile>();
+        var index = LEVELS.get(level);
+        if (index == null)
+            return ret;
+        var chunks = index.chunks;
+
+        int minX = (center.getX() - radius) >> 4;
+        int maxX = (center.getX() + radius) >> 4;
+        int minZ = (center.getZ() - radius) >> 4;
+        int maxZ = (center.getZ() + radius) >> 4;
+
+        // Look up every chunk in range, unless there are fewer chunks with generators than that
+        if ((long)(maxX - minX + 1) * (maxZ - minZ + 1) <= chunks.size()) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    var tiles = chunks.get(ChunkPos.asLong(x, z));
+                    if (tiles != null)
+                        filter(tiles, center, radius, tier, ret);
+                }
+            }
+        } else {
+            for (var tiles : chunks.values())
+                filter(tiles, center, radius, tier, ret);
+        }
+        return ret;
+    }
+
+    private static void filter(Set<CobbleGenTile> tiles, BlockPos center, int radius, int tier, List<CobbleGenTile> ret) {
+        for (var tile : tiles) {
+            var pos = tile.getBlockPos();
+            if ((tier == 0 || tile.tier == tier) && Math.abs(pos.getX() - center.getX()) <= radius && Math.abs(pos.getZ() - center.getZ()) <= radius)
+                ret.add(tile);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        LEVELS.remove(event.getLevel());
+    }
+}
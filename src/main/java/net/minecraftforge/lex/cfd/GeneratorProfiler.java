@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/*
+ * Samples what generators cost while the server is running, started and reported through '/cfd profile'.
+ * Every hook is behind a check of 'enabled', so none of this is touched while profiling is off.
+ * Only ever used from the server thread.
+ */
+class GeneratorProfiler {
+    static boolean enabled = false;
+
+    private static final Map<ResourceKey<Level>, Stats[]> STATS = new LinkedHashMap<>();
+    private static long started = 0;
+    private static long stopped = 0;
+
+    static void start() {
+        STATS.clear();
+        started = Util.getMillis();
+        enabled = true;
+    }
+
+    static void stop() {
+        enabled = false;
+        stopped = Util.getMillis();
+    }
+
+    private static Stats get(CobbleGenTile tile) {
+        var tiers = STATS.computeIfAbsent(tile.getLevel().dimension(), k -> new Stats[CobbleForDays.TIER_COUNT]);
+        var ret = tiers[tile.tier - 1];
+        if (ret == null)
+            ret = tiers[tile.tier - 1] = new Stats();
+        return ret;
+    }
+
+    static void tick(CobbleGenTile tile, long nanos) {
+        var stats = get(tile);
+        stats.generators.add(tile.getBlockPos());
+        stats.updates++;
+        stats.nanos += nanos;
+        stats.histogram[bucket(nanos)]++;
+    }
+
+    static void produced(CobbleGenTile tile, long count) {
+        get(tile).produced += count;
+    }
+
+    static void pushed(CobbleGenTile tile, long count) {
+        var stats = get(tile);
+        if (count == 0)
+            stats.failed++;
+        else
+            stats.pushed += count;
+    }
+
+    static void rebuilt(CobbleGenTile tile) {
+        get(tile).rebuilds++;
+    }
+
+    static List<String> report() {
+        var ret = new ArrayList<String>();
+        long millis = (enabled ? Util.getMillis() : stopped) - started;
+        ret.add("Generator profile over " + millis + "ms" + (enabled ? ", still running" : ""));
+
+        for (var entry : STATS.entrySet()) {
+            var tiers = entry.getValue();
+            for (int x = 0; x < tiers.length; x++) {
+                var stats = tiers[x];
+                if (stats == null)
+                    continue;
+                ret.add(String.format("%s Tier %d: %d generators, %d updates, %dns total, p50 %dns, p99 %dns, " +
+                    "%d produced, %d pushed, %d failed pushes, %d cache rebuilds",
+                    entry.getKey().location(), x + 1, stats.generators.size(), stats.updates, stats.nanos,
+                    stats.percentile(0.50), stats.percentile(0.99),
+                    stats.produced, stats.pushed, stats.failed, stats.rebuilds));
+            }
+        }
+
+        if (ret.size() == 1)
+            ret.add("No generators were updated");
+        return ret;
+    }
+
+    /*
+     * Log scale buckets, four per power of two, good enough to tell a p99 of 200ns from one of 20us.
+     */
+    private static int bucket(long nanos) {
+        if (nanos < 4)
+            return (int)Math.max(nanos, 0);
+        int bit = 63 - Long.numberOfLeadingZeros(nanos);
+        return (bit << 2) | (int)((nanos >>> (bit - 2)) & 3);
+    }
+
+    private static long upper(int bucket) {
+        if (bucket < 4)
+            return bucket;
+        int bit = bucket >> 2;
+        return ((4L | (bucket & 3)) + 1) << (bit - 2);
+    }
+
+    private static class Stats {
+        private final Set<BlockPos> generators = new HashSet<>();
+        private final long[] histogram = new long[64 * 4];
+        private long updates;
+        private long nanos;
+        private long produced;
+        private long pushed;
+        private long failed;
+        private long rebuilds;
+
+        private long percentile(double pct) {
+            long target = (long)Math.ceil(updates * pct);
+            long seen = 0;
+            for (int x = 0; x < histogram.length; x++) {
+                seen += histogram[x];
+                if (seen >= target && seen > 0)
+                    return upper(x);
+            }
+            return 0;
+        }
+    }
+}
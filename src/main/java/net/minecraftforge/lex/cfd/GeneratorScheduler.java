@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+/*
+ * Updates every generator in a level from one tick event. A timing wheel indexed by the game time each generator is
+ * next due, entries more than one rotation away stay in their bucket until then.
+ */
+@EventBusSubscriber(modid = CobbleForDays.MODID)
+public class GeneratorScheduler {
+    private static final int SIZE = 256; // Must be a power of two
+    private static final int MASK = SIZE - 1;
+    private static final long BEHIND = 50_000_000L;
+
+    // Shared by every level
+    private static int budgetTick = -1;
+    private static long spent = 0;
+
+    private final ServerLevel level;
+    private final List<List<CobbleGenTile>> wheel = new ArrayList<>(SIZE);
+    private List<CobbleGenTile> spare = new ArrayList<>();
+    private final List<CobbleGenTile> ready = new ArrayList<>();
+    private Config.Settings[] settings = null;
+    private long time = -1;
+    private long pass = 0;
+
+    private GeneratorScheduler(ServerLevel level) {
+        this.level = level;
+        for (int x = 0; x < SIZE; x++)
+            wheel.add(new ArrayList<>());
+    }
+
+    public static GeneratorScheduler get(ServerLevel level) {
+        var index = GeneratorIndex.get(level);
+        if (index.scheduler == null)
+            index.scheduler = new GeneratorScheduler(level);
+        return index.scheduler;
+    }
+
+    public void add(CobbleGenTile tile) {
+        tile.scheduler = this;
+        tile.due = -1;
+        schedule(tile, level.getGameTime() + 1);
+    }
+
+    public static void remove(CobbleGenTile tile) {
+        // Stale wheel entries are dropped when their bucket comes around
+        tile.scheduler = null;
+        tile.due = -1;
+    }
+
+    public void wake(CobbleGenTile tile) {
+        long next = level.getGameTime() + 1;
+        if (tile.scheduler == this && (tile.due < 0 || tile.due > next))
+            schedule(tile, next);
+    }
+
+    private void schedule(CobbleGenTile tile, long due) {
+        if (tile.scheduler != this || tile.due == due)
+            return;
+        if (due <= time)
+            due = time + 1;
+        tile.due = due;
+        wheel.get((int)(due & MASK)).add(tile);
+    }
+
+    private void tick() {
+        long now = level.getGameTime();
+        long started = System.nanoTime();
+
+        // Wake everything on a new config, or sleepers would keep their old interval
+        var current = Config.getSettings();
+        if (settings != current) {
+            if (settings != null) {
+                for (var tiles : GeneratorIndex.chunks(level)) {
+                    for (var tile : tiles)
+                        wake(tile);
+                }
+            }
+            settings = current;
+        }
+
+        // Catch up on skipped buckets if game time jumped, at most one rotation
+        long start = time < 0 ? now : Math.max(time + 1, now - MASK);
+        time = now;
+        for (long t = start; t <= now; t++)
+            collect((int)(t & MASK), now);
+        run(now, started);
+    }
+
+    private void collect(int slot, long now) {
+        var entries = wheel.get(slot);
+        wheel.set(slot, spare);
+        pass++;
+
+        for (var tile : entries) {
+            if (tile.visited == pass)
+                continue;
+            tile.visited = pass;
+
+            if (tile.scheduler != this || tile.due < 0 || tile.isRemoved())
+                continue;
+
+            if (tile.due > now) {
+                if ((tile.due & MASK) == slot)
+                    wheel.get(slot).add(tile);
+                continue;
+            }
+
+            tile.due = -1;
+            if (tile.waiting) // Already first in line from last tick
+                continue;
+            if (level.shouldTickBlocksAt(tile.getBlockPos())) {
+                tile.waiting = true;
+                ready.add(tile);
+            } else {
+                long next = tile.skip(now);
+                if (next > 0)
+                    schedule(tile, next);
+            }
+        }
+
+        entries.clear();
+        spare = entries;
+    }
+
+    /*
+     * Whatever the budget doesn't cover stays first in line for next tick. Production is based on game time, so
+     * waiting loses nothing.
+     */
+    private void run(long now, long started) {
+        var server = level.getServer();
+        if (server.getTickCount() != budgetTick) {
+            budgetTick = server.getTickCount();
+            spent = 0;
+        }
+
+        var global = Config.getGlobal();
+        long budget = global == null ? 0 : global.budget() * 1000L;
+        if (server.getAverageTickTimeNanos() > BEHIND)
+            budget /= 4;
+        int parallel = global == null || GeneratorProfiler.enabled ? 0 : global.parallel();
+
+        int x = 0;
+        // At least one, or a level ticking after a busy one would starve
+        while (x < ready.size() && (x == 0 || within(budget, started))) {
+            // Only produce a batch at a time, for batches we get to
+            int end = ready.size();
+            if (parallel > 0 && end - x >= parallel) {
+                end = x + parallel;
+                ready.subList(x, end).parallelStream().forEach(tile -> tile.produce(now));
+            }
+
+            for (; x < end && (x == 0 || within(budget, started)); x++) {
+                var tile = ready.get(x);
+                tile.waiting = false;
+                if (tile.scheduler != this || tile.isRemoved())
+                    continue;
+                long next = tile.tick(now);
+                if (next > 0)
+                    schedule(tile, next);
+            }
+        }
+        spent += System.nanoTime() - started;
+
+        if (x == ready.size())
+            ready.clear();
+        else
+            ready.subList(0, x).clear();
+    }
+
+    private static boolean within(long budget, long started) {
+        return budget <= 0 || spent + System.nanoTime() - started < budget;
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.level.isClientSide)
+            return;
+
+        var index = GeneratorIndex.getIfPresent(event.level);
+        if (index != null && index.scheduler != null)
+            index.scheduler.tick();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.saveddata.SavedData;
+
+/*
+ * Every generator's buffer in a level, kept in one file instead of a few tags in every chunk it's in, when the
+ * 'store' option is on. Generators write themselves in here whenever they'd otherwise mark their chunk dirty, so
+ * generators alone never cause a chunk to be rewritten.
+ *
+ * Entries are grouped into regions of 32x32 chunks. Each region is saved as one byte array, sorted by position
+ * with every number packed as a varint. A region is only encoded again if something in it changed since the last
+ * save, the rest reuse the bytes they were last saved as.
+ */
+class GeneratorStore extends SavedData {
+    private static final String NAME = CobbleForDays.MODID + "_generators";
+    private static final int VERSION = 1;
+    private static final SavedData.Factory<GeneratorStore> FACTORY = new SavedData.Factory<>(GeneratorStore::new, GeneratorStore::load, null);
+
+    private final Long2ObjectOpenHashMap<Region> regions = new Long2ObjectOpenHashMap<>();
+
+    // time is -1 for cluster members other than the root, which have nothing to make up for
+    record Entry(long count, int timer, long time, boolean frozen, int size) {}
+
+    private static class Region {
+        private final Long2ObjectRBTreeMap<Entry> entries = new Long2ObjectRBTreeMap<>();
+        private byte[] encoded = null; // Null if anything changed since it was last saved
+    }
+
+    static GeneratorStore get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(FACTORY, NAME);
+    }
+
+    private static long region(long pos) {
+        return ChunkPos.asLong(BlockPos.getX(pos) >> 9, BlockPos.getZ(pos) >> 9);
+    }
+
+    Entry get(BlockPos pos) {
+        long key = pos.asLong();
+        var region = regions.get(region(key));
+        return region == null ? null : region.entries.get(key);
+    }
+
+    /*
+     * Records where a generator is at right now. Cluster members other than the root hold nothing of their own,
+     * they only keep their timer in case they load up on their own.
+     */
+    void put(CobbleGenTile tile) {
+        var root = tile.root() == tile;
+        var entry = root ? new Entry(tile.count, tile.timer, tile.lastTick, tile.frozen, tile.size()) : new Entry(0, tile.timer, -1, false, 1);
+        long key = tile.getBlockPos().asLong();
+        var region = regions.computeIfAbsent(region(key), k -> new Region());
+        if (entry.equals(region.entries.put(key, entry)))
+            return;
+        region.encoded = null;
+        setDirty();
+    }
+
+    void remove(BlockPos pos) {
+        long key = pos.asLong();
+        long regionKey = region(key);
+        var region = regions.get(regionKey);
+        if (region == null || region.entries.remove(key) == null)
+            return;
+        if (region.entries.isEmpty())
+            regions.remove(regionKey);
+        else
+            region.encoded = null;
+        setDirty();
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider regs) {
+        tag.putInt("version", VERSION);
+        var data = new CompoundTag();
+        for (var region : regions.long2ObjectEntrySet()) {
+            var value = region.getValue();
+            if (value.encoded == null)
+                value.encoded = encode(value);
+            data.putByteArray(Long.toString(region.getLongKey()), value.encoded);
+        }
+        tag.put("regions", data);
+        return tag;
+    }
+
+    private static GeneratorStore load(CompoundTag tag, HolderLookup.Provider regs) {
+        var ret = new GeneratorStore();
+        if (tag.getInt("version") != VERSION)
+            return ret;
+
+        var data = tag.getCompound("regions");
+        for (var key : data.getAllKeys()) {
+            var region = new Region();
+            region.encoded = data.getByteArray(key);
+            decode(region);
+            if (!region.entries.isEmpty())
+                ret.regions.put(Long.parseLong(key), region);
+        }
+        return ret;
+    }
+
+    /*
+     * Positions are written as the difference from the one before, which is small for generators built next to each other.
+     */
+    private static byte[] encode(Region region) {
+        var buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeVarInt(region.entries.size());
+        long last = 0;
+        for (var entry : region.entries.long2ObjectEntrySet()) {
+            var value = entry.getValue();
+            buf.writeVarLong(entry.getLongKey() - last);
+            buf.writeVarLong(value.count());
+            buf.writeVarInt(value.timer());
+            buf.writeVarLong(value.time() + 1);
+            buf.writeBoolean(value.frozen());
+            buf.writeVarInt(value.size());
+            last = entry.getLongKey();
+        }
+        var ret = new byte[buf.readableBytes()];
+        buf.readBytes(ret);
+        buf.release();
+        return ret;
+    }
+
+    private static void decode(Region region) {
+        var buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(region.encoded));
+        int size = buf.readVarInt();
+        long last = 0;
+        for (int x = 0; x < size; x++) {
+            long pos = last + buf.readVarLong();
+            region.entries.put(pos, new Entry(buf.readVarLong(), buf.readVarInt(), buf.readVarLong() - 1, buf.readBoolean(), buf.readVarInt()));
+            last = pos;
+        }
+    }
+}
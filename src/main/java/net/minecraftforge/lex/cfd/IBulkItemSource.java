@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Exposed by generators alongside their {@code IItemHandler}, through {@link CobbleForDays#BULK_ITEMS}. Lets storage
+ * mods move any amount of items in one call, instead of building an {@link ItemStack} for every stack's worth.
+ */
+public interface IBulkItemSource {
+    /**
+     * The item this source holds.
+     *
+     * @return A shared stack, its count means nothing and it must not be modified.
+     */
+    ItemStack getItem();
+
+    /**
+     * @return How many items are available right now.
+     */
+    long getAmount();
+
+    /**
+     * Removes up to the given amount.
+     *
+     * @param amount The most to remove, anything below 1 removes nothing.
+     * @param simulate If true nothing is removed, only how many would have been is returned.
+     * @return How many items were, or would have been, removed.
+     */
+    long extract(long amount, boolean simulate);
+}
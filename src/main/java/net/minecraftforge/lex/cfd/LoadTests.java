@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.world.Container;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.gametest.GameTestHolder;
+
+/*
+ * Load tests, run headless with 'gradlew runGameTestServer'. Each one fills the empty 'loadtest' structure with a grid
+ * of one tier of generator, under chests, hoppers or nothing, lets the server run, and records the average tick time,
+ * what the server thread allocated, and how many items were made. Every result is written as json to the folder the
+ * 'cobblefordays.loadtest.reports' property names. How many generators, and how many ticks to warm up and measure,
+ * come from the 'counts', 'warmup' and 'ticks' properties under the same prefix.
+ *
+ * A test fails if it goes more than 'tolerance' over what 'loadtest-baseline.json' recorded for it, like
+ * {"tier5-10000-chest": {"mspt": 2.5, "allocatedPerTick": 4096}}, and the server exits with the number of tests that
+ * failed. 'gradlew recordLoadTestBaseline' writes the last run's reports into the baseline. Every test is its own
+ * batch, so they run one at a time and don't skew each other's tick times.
+ */
+@GameTestHolder(CobbleForDays.MODID)
+public class LoadTests {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String TEMPLATE = CobbleForDays.MODID + ":loadtest"; // Empty, 100x3x100
+    private static final String PREFIX = "cobblefordays.loadtest.";
+    private static final int[] COUNTS = Arrays.stream(System.getProperty(PREFIX + "counts", "1000,10000").split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final int WARMUP = Integer.getInteger(PREFIX + "warmup", 40);
+    private static final int TICKS = Integer.getInteger(PREFIX + "ticks", 100); // mspt is the server's own average over its last 100 ticks, so fewer counts some warmup
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty(PREFIX + "tolerance", "0.1"));
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    enum Sink {
+        NONE(null),
+        CHEST(Blocks.CHEST),
+        HOPPER(Blocks.HOPPER);
+
+        private final Block block;
+
+        private Sink(Block block) {
+            this.block = block;
+        }
+    }
+
+    @GameTestGenerator
+    public static List<TestFunction> generate() {
+        var ret = new ArrayList<TestFunction>();
+        for (int tier = 1; tier <= CobbleForDays.TIER_COUNT; tier++) {
+            for (int count : COUNTS) {
+                for (var sink : Sink.values()) {
+                    var test = new LoadTests(tier, count, sink);
+                    ret.add(new TestFunction(test.name, test.name, TEMPLATE, WARMUP + TICKS + 20, 0, true, test::run));
+                }
+            }
+        }
+        return ret;
+    }
+
+    private final String name;
+    private final int tier;
+    private final Sink sink;
+    private final List<BlockPos> generators = new ArrayList<>();
+
+    private LoadTests(int tier, int count, Sink sink) {
+        this.name = "tier" + tier + "-" + count + "-" + sink.name().toLowerCase(Locale.ROOT);
+        this.tier = tier;
+        this.sink = sink;
+
+        int side = (int)Math.ceil(Math.sqrt(count));
+        for (int x = 0; x < count; x++)
+            generators.add(new BlockPos(x % side, 1, x / side));
+    }
+
+    /*
+     * Nothing about a run is kept on the test itself, so it can be run again with '/test' without restarting.
+     */
+    private void run(GameTestHelper helper) {
+        var generator = CobbleForDays.getTier(tier).block().get();
+        for (var pos : generators) {
+            helper.setBlock(pos, generator);
+            if (sink.block != null)
+                helper.setBlock(pos.above(), sink.block);
+        }
+
+        // Give everything a moment to settle in, the first few ticks look up every cache at once
+        long[] allocStart = new long[1];
+        helper.runAfterDelay(WARMUP, () -> allocStart[0] = THREADS.getCurrentThreadAllocatedBytes());
+        helper.runAfterDelay(WARMUP + TICKS, () -> finish(helper, THREADS.getCurrentThreadAllocatedBytes() - allocStart[0]));
+    }
+
+    private void finish(GameTestHelper helper, long allocated) {
+        var report = new JsonObject();
+        report.addProperty("name", name);
+        report.addProperty("tier", tier);
+        report.addProperty("generators", generators.size());
+        report.addProperty("sink", sink.name().toLowerCase(Locale.ROOT));
+        report.addProperty("ticks", TICKS);
+        report.addProperty("mspt", helper.getLevel().getServer().getAverageTickTimeNanos() / 1_000_000.0);
+        report.addProperty("allocatedPerTick", allocated / TICKS);
+        report.addProperty("produced", produced(helper));
+
+        var failures = check(report);
+        report.addProperty("failed", !failures.isEmpty());
+
+        var dir = Path.of(System.getProperty(PREFIX + "reports", "cfd-loadtest"));
+        var file = dir.resolve(name + ".json");
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(file, GSON.toJson(report));
+        } catch (IOException e) {
+            LOGGER.error("Failed to write load test report {}", file, e);
+        }
+
+        LOGGER.info("Load test {}: {} mspt, {} bytes/tick allocated, {} items produced", name,
+            report.get("mspt").getAsDouble(), report.get("allocatedPerTick").getAsLong(), report.get("produced").getAsLong());
+
+        if (!failures.isEmpty())
+            helper.fail(String.join(", ", failures));
+        helper.succeed();
+    }
+
+    private long produced(GameTestHelper helper) {
+        long ret = 0;
+        var level = helper.getLevel();
+        for (var pos : generators) {
+            if (level.getBlockEntity(helper.absolutePos(pos)) instanceof CobbleGenTile tile && tile.root() == tile)
+                ret = Buffer.add(ret, tile.buffered());
+            if (level.getBlockEntity(helper.absolutePos(pos.above())) instanceof Container container) {
+                for (int x = 0; x < container.getContainerSize(); x++)
+                    ret += container.getItem(x).getCount();
+            }
+        }
+        return ret;
+    }
+
+    /*
+     * Compares a report against the baseline for the same test, if there is one. Every value in the baseline was
+     * measured, and is allowed to grow by the tolerance before it fails.
+     */
+    private List<String> check(JsonObject report) {
+        var ret = new ArrayList<String>();
+        var prop = System.getProperty(PREFIX + "baseline");
+        if (prop == null)
+            return ret;
+
+        var path = Path.of(prop);
+        try {
+            var baselines = JsonParser.parseString(Files.readString(path)).getAsJsonObject();
+            if (!baselines.has(name))
+                return ret;
+
+            var baseline = baselines.getAsJsonObject(name);
+            report.add("baseline", baseline);
+            for (var key : baseline.keySet()) {
+                if (!report.has(key))
+                    continue;
+                double limit = baseline.get(key).getAsDouble() * (1 + TOLERANCE);
+                double actual = report.get(key).getAsDouble();
+                if (actual > limit)
+                    ret.add(key + " " + actual + " > " + limit);
+            }
+        } catch (IOException | RuntimeException e) {
+            ret.add("Failed to read baseline " + path + ": " + e.getMessage());
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) LexManos
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package net.minecraftforge.lex.cfd;
+
+import java.util.BitSet;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
+import net.minecraftforge.items.IItemHandler;
+
+/*
+ * The inventory we push into, along with what we've learned about it since the capability was last (re)built.
+ * The same order as ItemHandlerHelper.insertItemStacked, top up existing stacks then fill empty slots. But we
+ * reuse one stack until an inventory takes some of it, start with the slot that took items last time, and skip
+ * slots we've seen full without calling insertItem. So a push into a full inventory allocates nothing, and most
+ * pushes into a large one touch a single slot.
+ */
+class PushTarget {
+    LazyOptional<IItemHandler> cache = null;
+    LazyOptional<IItemHandler> listening = null;
+    NonNullConsumer<LazyOptional<IItemHandler>> listener = null;
+    boolean stale = false;
+    // The last push into this took nothing, so leave it alone while the generator has somewhere else to push
+    boolean blocked = false;
+    private final BitSet full = new BitSet();
+    private int hint = -1;
+
+    void set(LazyOptional<IItemHandler> cache) {
+        this.cache = cache;
+        this.full.clear();
+        this.hint = -1;
+        this.blocked = false;
+    }
+
+    int insert(IItemHandler handler, Stack stack, int left) {
+        if (left <= 0)
+            return left;
+
+        int slots = handler.getSlots();
+        if (hint >= 0 && hint < slots) {
+            left = insert(handler, handler.getStackInSlot(hint), hint, stack, left);
+            if (left == 0)
+                return 0;
+        }
+
+        int start = left;
+        left = scan(handler, slots, stack, left, false);
+        if (left > 0)
+            left = scan(handler, slots, stack, left, true);
+
+        // Nothing fit even in slots we hadn't written off, forget what we know so the next attempt looks at everything.
+        if (left == start)
+            full.clear();
+        return left;
+    }
+
+    private int scan(IItemHandler handler, int slots, Stack stack, int left, boolean empty) {
+        for (int x = full.nextClearBit(0); x < slots && left > 0; x = full.nextClearBit(x + 1)) {
+            ItemStack existing = handler.getStackInSlot(x);
+            if (existing.isEmpty() == empty)
+                left = insert(handler, existing, x, stack, left);
+        }
+        return left;
+    }
+
+    private int insert(IItemHandler handler, ItemStack existing, int slot, Stack stack, int left) {
+        var offer = stack.get(left);
+        if (!existing.isEmpty() && (!ItemStack.isSameItemSameComponents(existing, offer) || existing.getCount() >= Math.min(existing.getMaxStackSize(), handler.getSlotLimit(slot)))) {
+            full(slot);
+            return left;
+        }
+
+        int remaining = handler.insertItem(slot, offer, false).getCount();
+        // Handlers are allowed to keep the stack they're given, ItemStackHandler does when it all fits in an empty slot.
+        if (remaining < left)
+            stack.kept();
+        if (remaining == 0)
+            hint = slot;
+        else
+            full(slot);
+        return remaining;
+    }
+
+    private void full(int slot) {
+        full.set(slot);
+        if (hint == slot)
+            hint = -1;
+    }
+
+    /*
+     * The cobblestone we offer, reused for every attempt until an inventory takes some of it. After that it may
+     * be sitting in their slot, so we let it go and start a new one.
+     */
+    static class Stack {
+        private ItemStack stack = null;
+
+        ItemStack get(int count) {
+            if (stack == null)
+                stack = new ItemStack(Items.COBBLESTONE, count);
+            else
+                stack.setCount(count);
+            return stack;
+        }
+
+        void kept() {
+            stack = null;
+        }
+    }
+}
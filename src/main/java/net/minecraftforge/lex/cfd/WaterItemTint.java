@@ -8,20 +8,74 @@ import javax.annotation.Nullable;
 
 import com.mojang.serialization.MapCodec;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.color.item.ItemTintSource;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.BiomeColors;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
 
 public record WaterItemTint() implements ItemTintSource {
     public static final WaterItemTint INSTANCE = new WaterItemTint();
     public static final MapCodec<WaterItemTint> CODEC = MapCodec.unit(() -> INSTANCE);
 
+    /*
+     * Held generators ask for their tint every frame, while whoever holds them hardly ever changes block. So remember
+     * the color per block position, and forget it when the chunks around it load, or everything when the level or the
+     * biome blend radius changes, the same things that clear the level's own tint cache. Only ever used from the
+     * render thread.
+     */
+    private static final int MAX_CACHED = 256;
+    private static final Long2IntOpenHashMap CACHE = new Long2IntOpenHashMap();
+    private static ClientLevel cachedLevel = null;
+    private static int cachedBlend = -1;
+
     @Override
     public int calculate(ItemStack stack, @Nullable ClientLevel level, @Nullable LivingEntity entity) {
         if (level == null || entity == null) return CobbleForDays.PLAINS;
-        return BiomeColors.getAverageWaterColor(level, entity.blockPosition());
+
+        int blend = Minecraft.getInstance().options.biomeBlendRadius().get();
+        if (level != cachedLevel || blend != cachedBlend || CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+            cachedLevel = level;
+            cachedBlend = blend;
+        }
+
+        var pos = entity.blockPosition();
+        long key = pos.asLong();
+        if (CACHE.containsKey(key))
+            return CACHE.get(key);
+
+        int ret = BiomeColors.getAverageWaterColor(level, pos);
+        CACHE.put(key, ret);
+        return ret;
+    }
+
+    /*
+     * Blending reaches into the chunks next to the one that loaded, so those are forgotten too.
+     */
+    static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() != cachedLevel || CACHE.isEmpty())
+            return;
+
+        var pos = event.getChunk().getPos();
+        for (var itr = CACHE.keySet().iterator(); itr.hasNext(); ) {
+            long key = itr.nextLong();
+            if (Math.abs((BlockPos.getX(key) >> 4) - pos.x) <= 1 && Math.abs((BlockPos.getZ(key) >> 4) - pos.z) <= 1)
+                itr.remove();
+        }
+    }
+
+    // So the level isn't kept around after we leave it
+    static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() != cachedLevel)
+            return;
+        cachedLevel = null;
+        CACHE.clear();
     }
 
     @Override